@@ -72,6 +72,11 @@ public class CliConfig {
   private String connectionPoolSize;
   @Parameter(names = {"--enable-metrics"}, descriptionKey = "config.generic.enableMetrics")
   private Boolean metricsEnabled;
+  @Parameter(names = {"--enable-virtual-threads"}, descriptionKey =
+      "config.generic.enableVirtualThreads")
+  private Boolean virtualThreads;
+  @Parameter(names = {"--shutdown-timeout"}, descriptionKey = "config.generic.shutdownTimeout")
+  private String shutdownTimeout;
 
   @Parameter(names = {"--offHeapBuffer-enabled"}, descriptionKey = "config.offHeapBuffer.enabled")
   private Boolean offHeapBufferEnabled;
@@ -243,6 +248,14 @@ public class CliConfig {
     return metricsEnabled;
   }
 
+  public Boolean getVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public String getShutdownTimeout() {
+    return shutdownTimeout;
+  }
+
   public Boolean getOffHeapBufferEnabled() {
     return offHeapBufferEnabled;
   }
@@ -357,17 +370,23 @@ public class CliConfig {
     if (metricsEnabled != null) {
       addParam("/metricsEnabled", metricsEnabled ? "true" : "false");
     }
+    if (virtualThreads != null) {
+      addParam("/virtualThreads", virtualThreads ? "true" : "false");
+    }
+    if (shutdownTimeout != null) {
+      addParam("/shutdownTimeout", shutdownTimeout);
+    }
     if (offHeapBufferEnabled != null) {
-      addParam("/offHeapBufferEnabled", offHeapBufferEnabled ? "true" : "false");
+      addParam("/offHeapBuffer/enabled", offHeapBufferEnabled ? "true" : "false");
     }
     if (offHeapBufferPath != null) {
-      addParam("/offHeapBufferPath", offHeapBufferPath);
+      addParam("/offHeapBuffer/path", offHeapBufferPath);
     }
     if (offHeapBufferMaxFiles != null) {
-      addParam("/offHeapBufferMaxFiles", offHeapBufferMaxFiles);
+      addParam("/offHeapBuffer/maxFiles", offHeapBufferMaxFiles);
     }
     if (offHeapBufferRollCycle != null) {
-      addParam("/offHeapBufferRollCycle", offHeapBufferRollCycle);
+      addParam("/offHeapBuffer/rollCycle", offHeapBufferRollCycle);
     }
     if (replSetName != null) {
       addParam("/replication/replSetName", replSetName);
@@ -21,7 +21,10 @@ package com.torodb.stampede;
 import com.beust.jcommander.JCommander;
 import com.beust.jcommander.internal.Console;
 import com.beust.jcommander.internal.Lists;
+import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
 import com.google.common.base.Charsets;
 import com.google.common.base.Throwables;
 import com.google.common.collect.ImmutableList;
@@ -30,6 +33,8 @@ import com.google.common.util.concurrent.Service;
 import com.google.inject.CreationException;
 import com.google.inject.Guice;
 import com.google.inject.Injector;
+import com.google.inject.Module;
+import com.google.inject.util.Modules;
 import com.torodb.core.BuildProperties;
 import com.torodb.core.backend.BackendBundle;
 import com.torodb.core.bundle.BundleConfig;
@@ -48,6 +53,7 @@ import com.torodb.packaging.config.model.backend.BackendPasswordConfig;
 import com.torodb.packaging.config.model.backend.postgres.AbstractPostgres;
 import com.torodb.packaging.config.model.protocol.mongo.AbstractShardReplication;
 import com.torodb.packaging.config.model.protocol.mongo.AuthMode;
+import com.torodb.packaging.config.model.protocol.mongo.FilterList;
 import com.torodb.packaging.config.model.protocol.mongo.MongoPasswordConfig;
 import com.torodb.packaging.config.util.BackendImplementationVisitor;
 import com.torodb.packaging.config.util.BackendImplementationVisitorWithDefault;
@@ -70,9 +76,15 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.lang.Thread.UncaughtExceptionHandler;
 import java.time.Clock;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.PropertyResourceBundle;
 import java.util.ResourceBundle;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 import java.util.function.Supplier;
@@ -266,13 +278,13 @@ public class Main {
 
         Service stampedeService = new StampedeService(createStampedeConfig(config));
 
+        // The hook must be registered before waiting for the service, otherwise a SIGTERM would
+        // end the JVM without stopping the replication cleanly
+        Runtime.getRuntime().addShutdownHook(new Thread(
+            () -> stopService(stampedeService, config.getShutdownTimeout())));
+
         stampedeService.startAsync();
         stampedeService.awaitTerminated();
-
-        Runtime.getRuntime().addShutdownHook(new Thread(() -> {
-          stampedeService.stopAsync();
-          stampedeService.awaitTerminated();
-        }));
       } catch (CreationException ex) {
         ex.getErrorMessages().stream().forEach(m -> {
           if (m.getCause() != null) {
@@ -295,6 +307,23 @@ public class Main {
     }
   }
 
+  private static void stopService(Service stampedeService, long shutdownTimeout) {
+    stampedeService.stopAsync();
+    try {
+      stampedeService.awaitTerminated(shutdownTimeout, TimeUnit.MILLISECONDS);
+    } catch (TimeoutException ex) {
+      LOGGER.warn("ToroDB Stampede has not been stopped after " + shutdownTimeout
+          + " milliseconds. Forcing the exit");
+    } catch (IllegalStateException ex) {
+      LOGGER.error("ToroDB Stampede failed while it was stopping. Some shards may have been left "
+          + "inconsistent", stampedeService.failureCause());
+    } finally {
+      // Log4j2 shutdown hook is disabled, so the appenders are flushed here once the last
+      // message of the stop sequence has been logged
+      LogManager.shutdown();
+    }
+  }
+
   private static StampedeConfig createStampedeConfig(Config config) {
     Clock clock = Clock.systemDefaultZone();
 
@@ -302,11 +331,16 @@ public class Main {
     Backend backendConfig = config.getBackend();
     Replication replicationConfig = config.getReplication();
 
-    Injector essentialInjector = Guice.createInjector(new EssentialModule(
+    Module essentialModule = new EssentialModule(
         new ComponentLoggerFactory("LIFECYCLE"),
         metricsConfig,
-        clock)
-    );
+        clock);
+    if (config.getVirtualThreads()) {
+      ThreadFactory virtualThreadFactory = createVirtualThreadFactory();
+      essentialModule = Modules.override(essentialModule).with(binder ->
+          binder.bind(ThreadFactory.class).toInstance(virtualThreadFactory));
+    }
+    Injector essentialInjector = Guice.createInjector(essentialModule);
     
     Function<BundleConfig, BackendBundle> backendBundleGenerator = generalConfig ->
         BundleFactory.createBackendBundle(
@@ -316,12 +350,15 @@ public class Main {
     
     ReplicationFilters replFilters = ReplicationFiltersFactory.getReplicationFilters(
         config.getReplication());
+    ReplicationFilterLists replFilterLists = createReplicationFilterLists(
+        config.getReplication());
 
     if (config.getReplication().isShardingReplication()) {
       return StampedeConfig.createShardingConfig(
           essentialInjector,
           backendBundleGenerator,
           replFilters,
+          replFilterLists,
           createShardConfigBuilders(replicationConfig),
           LOGGER_FACTORY,
           config.getOffHeapBuffer()
@@ -331,6 +368,7 @@ public class Main {
           essentialInjector,
           backendBundleGenerator,
           replFilters,
+          replFilterLists,
           createUnshardedShardBuilder(replicationConfig),
           LOGGER_FACTORY,
           config.getOffHeapBuffer()
@@ -338,6 +376,71 @@ public class Main {
     }
   }
 
+  /**
+   * Creates a {@link ThreadFactory} that creates virtual threads.
+   *
+   * <p>It only replaces the unannotated {@link ThreadFactory} binding, which is used by
+   * {@link StampedeService} and its consistency handlers. The engine executors are bound with
+   * their own annotated thread factories and are not affected.
+   *
+   * <p>Reflection is used because virtual threads are not available on the Java version this
+   * project is compiled for.
+   */
+  private static ThreadFactory createVirtualThreadFactory() {
+    try {
+      Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+      Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+      builder = builderClass.getMethod("name", String.class, long.class)
+          .invoke(builder, "torodb-virtual-", 0L);
+      return (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+    } catch (ClassNotFoundException | NoSuchMethodException ex) {
+      throw new SystemException("Virtual threads are not supported by this JVM ("
+          + System.getProperty("java.version") + "). Java 21 or newer is required");
+    } catch (ReflectiveOperationException ex) {
+      throw new SystemException(ex);
+    }
+  }
+
+  /**
+   * Returns the include and exclude filters of the given replication configuration.
+   *
+   * <p>Each index filter is written as JSON. Its keys keep their configured order, as it is the
+   * order of the fields on a compound index.
+   */
+  private static ReplicationFilterLists createReplicationFilterLists(
+      Replication replicationConfig) {
+    ObjectWriter writer = ConfigUtils.mapper(true).writer()
+        .without(SerializationFeature.INDENT_OUTPUT);
+    return new ReplicationFilterLists(
+        toFilterLists(writer, replicationConfig.getInclude()),
+        toFilterLists(writer, replicationConfig.getExclude())
+    );
+  }
+
+  private static Map<String, Map<String, List<String>>> toFilterLists(ObjectWriter writer,
+      FilterList filterList) {
+    Map<String, Map<String, List<String>>> result = new HashMap<>();
+    if (filterList == null) {
+      return result;
+    }
+    filterList.forEach((database, collections) -> {
+      Map<String, List<String>> collectionsResult = new HashMap<>();
+      collections.forEach((collection, indexFilters) -> {
+        List<String> indexFiltersResult = new ArrayList<>(indexFilters.size());
+        for (FilterList.IndexFilter indexFilter : indexFilters) {
+          try {
+            indexFiltersResult.add(writer.writeValueAsString(indexFilter));
+          } catch (JsonProcessingException ex) {
+            throw new SystemException(ex);
+          }
+        }
+        collectionsResult.put(collection, indexFiltersResult);
+      });
+      result.put(database, collectionsResult);
+    });
+    return result;
+  }
+
   private static void configureLogger(CliConfig cliConfig, Config config) {
     // If not specified in configuration then the log4j2.xml is used
     // instead (by default)
@@ -31,9 +31,11 @@ import com.torodb.stampede.config.model.logging.Logging;
 import com.torodb.stampede.config.model.mongo.replication.Replication;
 
 import javax.validation.Valid;
+import javax.validation.constraints.Min;
 import javax.validation.constraints.NotNull;
 
-@JsonPropertyOrder({"logging", "metricsEnabled", "offHeapBuffer", "replication", "backend"})
+@JsonPropertyOrder({"logging", "metricsEnabled", "virtualThreads", "shutdownTimeout",
+    "offHeapBuffer", "replication", "backend"})
 public class Config implements MetricsConfig {
 
   @Description("config.logging")
@@ -47,6 +49,17 @@ public class Config implements MetricsConfig {
   @JsonProperty(required = true)
   private Boolean metricsEnabled = false;
 
+  @Description("config.generic.virtualThreads")
+  @NotNull
+  @JsonProperty(required = true)
+  private Boolean virtualThreads = false;
+
+  @Description("config.generic.shutdownTimeout")
+  @NotNull
+  @Min(0)
+  @JsonProperty(required = true)
+  private Long shutdownTimeout = 8L * 1000;
+
   @Description("config.offHeapBuffer")
   private OffHeapBuffer offHeapBuffer = new OffHeapBuffer();
 
@@ -82,6 +95,21 @@ public class Config implements MetricsConfig {
     this.metricsEnabled = metricsEnabled;
   }
 
+  public Boolean getVirtualThreads() {
+    return virtualThreads;
+  }
+
+  public void setVirtualThreads(Boolean virtualThreads) {
+    this.virtualThreads = virtualThreads;
+  }
+
+  public Long getShutdownTimeout() {
+    return shutdownTimeout;
+  }
+
+  public void setShutdownTimeout(Long shutdownTimeout) {
+    this.shutdownTimeout = shutdownTimeout;
+  }
 
   public OffHeapBuffer getOffHeapBuffer() {
     return offHeapBuffer;
@@ -105,7 +105,9 @@ public class Postgres extends AbstractPostgres {
     return super.getApplicationName();
   }
 
-  @JsonIgnore
+  @Description("config.backend.postgres.includeForeignKeys")
+  @JsonProperty(required = false)
+  @NotNull
   @Override
   public Boolean getIncludeForeignKeys() {
     return super.getIncludeForeignKeys();
@@ -17,8 +17,10 @@
  */
 package com.torodb.stampede.config;
 
+import com.beust.jcommander.JCommander;
 import com.google.common.collect.ImmutableList;
 import com.google.common.collect.ImmutableMap;
+import com.torodb.mongodb.repl.oplogreplier.offheapbuffer.BufferRollCycle;
 import com.torodb.packaging.config.model.common.ListOfStringWithDefault;
 import com.torodb.packaging.config.model.generic.LogLevel;
 import com.torodb.packaging.config.model.protocol.mongo.AuthMode;
@@ -550,4 +552,77 @@ public class ConfigTest {
         true, shards.get(1).getSsl().getEnabled().value());
   }
 
+  @Test
+  public void testParseWithVirtualThreadsParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/virtualThreads=true"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/virtualThreads has different value than that specified", true,
+        config.getVirtualThreads());
+  }
+
+  @Test
+  public void testParseWithIncludeForeignKeysParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/backend/postgres/includeForeignKeys=true"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/backend/postgres/includeForeignKeys has different value than that "
+        + "specified", true, config.getBackend().as(Postgres.class).getIncludeForeignKeys());
+  }
+
+  @Test
+  public void testParseWithOffHeapBufferOptions() throws Exception {
+    ResourceBundle cliBundle = PropertyResourceBundle.getBundle("CliMessages");
+    CliConfig cliConfig = new CliConfig();
+    new JCommander(cliConfig, cliBundle,
+        "--offHeapBuffer-enabled",
+        "--offHeapBuffer-path", "/tmp/torodb-buffer",
+        "--offHeapBuffer-rollcycle", "HOURLY",
+        "--offHeapBuffer-maxFiles", "10");
+    cliConfig.addParams();
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/offHeapBuffer/enabled has different value than that specified", true,
+        config.getOffHeapBuffer().getEnabled());
+    Assert.assertEquals("/offHeapBuffer/path has different value than that specified",
+        "/tmp/torodb-buffer", config.getOffHeapBuffer().getPath());
+    Assert.assertEquals("/offHeapBuffer/rollCycle has different value than that specified",
+        BufferRollCycle.HOURLY, config.getOffHeapBuffer().getRollCycle());
+    Assert.assertEquals("/offHeapBuffer/maxFiles has different value than that specified", 10,
+        config.getOffHeapBuffer().getMaxFiles());
+  }
+
+  @Test
+  public void testParseWithShutdownTimeoutParam() throws Exception {
+    CliConfig cliConfig = new CliConfig() {
+      @Override
+      public List<String> getParams() {
+        String[] params = new String[]{
+          "/shutdownTimeout=120000"
+        };
+        return Arrays.asList(params);
+      }
+    };
+    Config config = CliConfigUtils.readConfig(cliConfig);
+
+    Assert.assertEquals("/shutdownTimeout has different value than that specified",
+        Long.valueOf(120000), config.getShutdownTimeout());
+  }
+
 }
@@ -21,13 +21,9 @@ import com.google.common.base.Preconditions;
 import com.torodb.core.backend.BackendService;
 import com.torodb.core.backend.DmlTransaction;
 import com.torodb.core.backend.MetaInfoKey;
-import com.torodb.core.backend.WriteDmlTransaction;
-import com.torodb.core.exceptions.user.UserException;
 import com.torodb.core.retrier.Retrier;
-import com.torodb.core.retrier.RetrierAbortException;
 import com.torodb.core.retrier.RetrierGiveUpException;
 import com.torodb.core.services.IdleTorodbService;
-import com.torodb.core.transaction.RollbackException;
 import com.torodb.kvdocument.types.BooleanType;
 import com.torodb.kvdocument.values.KvBoolean;
 import com.torodb.kvdocument.values.KvValue;
@@ -41,21 +37,22 @@ public abstract class AbstractConsistencyHandler extends IdleTorodbService
     implements ConsistencyHandler {
 
   private boolean consistent;
-  private final BackendService backendService;
-  private final Retrier retrier;
+  private boolean preloaded;
+  private final MetaInfoStore metaInfoStore;
 
   public AbstractConsistencyHandler(BackendService backendService, Retrier retrier,
       ThreadFactory threadFactory) {
     super(threadFactory);
-    this.backendService = backendService;
-    this.retrier = retrier;
+    this.metaInfoStore = new MetaInfoStore(backendService, retrier);
   }
 
   public abstract MetaInfoKey getConsistencyKey();
 
   @Override
   protected void startUp() throws Exception {
-    loadConsistent();
+    if (!preloaded) {
+      loadConsistent();
+    }
   }
 
   @Override
@@ -76,35 +73,37 @@ public abstract class AbstractConsistencyHandler extends IdleTorodbService
     logger.info("Consistent state has been set to '" + consistent + "'");
   }
 
+  /**
+   * Reads the stored consistency state using a transaction shared with other handlers, so this
+   * handler does not need to open its own transaction when it is started.
+   *
+   * <p>This method must be called before the service is started.
+   *
+   * @return the consistency state that has been read
+   */
+  boolean preloadConsistent(DmlTransaction trans) {
+    Preconditions.checkState(state() == State.NEW, "The consistency handler service has already "
+        + "been started");
+    consistent = readConsistent(trans);
+    preloaded = true;
+    return consistent;
+  }
+
   private void loadConsistent() {
-    try (DmlTransaction trans = backendService.openReadTransaction()) {
-      Optional<KvValue<?>> valueOpt = trans.readMetaInfo(getConsistencyKey());
-      if (!valueOpt.isPresent()) {
-        consistent = false;
-        return;
-      }
-      KvValue<?> value = valueOpt.get();
-      if (!value.getType().equals(BooleanType.INSTANCE)) {
-        throw new IllegalStateException("Unexpected consistency value "
-            + "found. Expected a boolean but " + valueOpt + " was "
-            + "found");
-      }
-      consistent = ((KvBoolean) value).getPrimitiveValue();
-    }
+    consistent = toConsistent(metaInfoStore.read(getConsistencyKey(), BooleanType.INSTANCE));
+  }
+
+  private boolean readConsistent(DmlTransaction trans) {
+    return toConsistent(metaInfoStore.read(trans, getConsistencyKey(), BooleanType.INSTANCE));
   }
 
-  private void flushConsistentState() throws RollbackException, RetrierGiveUpException {
-    retrier.retry(() -> {
-      try (WriteDmlTransaction trans = backendService.openWriteTransaction()) {
-
-        trans.writeMetaInfo(getConsistencyKey(), KvBoolean.from(consistent));
-        trans.commit();
-      } catch (UserException ex) {
-        throw new RetrierAbortException(ex);
-      }
-      return null;
-    });
+  private boolean toConsistent(Optional<KvValue<?>> valueOpt) {
+    return valueOpt.map(value -> ((KvBoolean) value).getPrimitiveValue())
+        .orElse(false);
   }
 
+  private void flushConsistentState() throws RetrierGiveUpException {
+    metaInfoStore.write(getConsistencyKey(), KvBoolean.from(consistent));
+  }
 
 }
@@ -0,0 +1,93 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.common.collect.ArrayListMultimap;
+import com.google.common.collect.ListMultimap;
+import com.torodb.core.retrier.Retrier;
+import com.torodb.core.retrier.RetrierAbortException;
+import com.torodb.core.retrier.RetrierGiveUpException;
+import com.torodb.mongodb.repl.filters.ReplicationFilters;
+import com.torodb.torod.CollectionInfo;
+import com.torodb.torod.DocTransaction;
+import com.torodb.torod.SchemaOperationExecutor;
+import com.torodb.torod.TorodServer;
+import com.torodb.torod.exception.SchemaOperationException;
+import org.apache.logging.log4j.Logger;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Drops the databases and collections that have been replicated but are rejected by the current
+ * replication filters.
+ */
+class ExcludedNamespacesDropper {
+
+  private final Retrier retrier;
+  private final Logger logger;
+
+  ExcludedNamespacesDropper(Retrier retrier, Logger logger) {
+    this.retrier = retrier;
+    this.logger = logger;
+  }
+
+  void drop(TorodServer torodServer, ReplicationFilters replFilters) throws TimeoutException,
+      RetrierGiveUpException {
+    List<String> excludedDatabases = new ArrayList<>();
+    ListMultimap<String, String> excludedCollections = ArrayListMultimap.create();
+    try (DocTransaction trans = torodServer.openReadTransaction()) {
+      for (String database : trans.getDatabases()) {
+        if (!replFilters.getDatabaseFilter().filter(database)) {
+          excludedDatabases.add(database);
+          continue;
+        }
+        trans.getCollectionsInfo(database)
+            .map(CollectionInfo::getName)
+            .filter(collection -> !replFilters.getNamespaceFilter().filter(database, collection))
+            .forEachOrdered(collection -> excludedCollections.put(database, collection));
+      }
+    }
+
+    if (excludedDatabases.isEmpty() && excludedCollections.isEmpty()) {
+      logger.info("No replicated database or collection is excluded by the replication filters");
+      return;
+    }
+
+    retrier.retry(() -> {
+      try (SchemaOperationExecutor schemaEx = torodServer.openSchemaOperationExecutor()) {
+        for (String database : excludedDatabases) {
+          logger.info("Dropping database {}, which is excluded by the replication filters",
+              database);
+          schemaEx.dropDatabase(database);
+        }
+        for (String database : excludedCollections.keySet()) {
+          for (String collection : excludedCollections.get(database)) {
+            logger.info("Dropping collection {}.{}, which is excluded by the replication filters",
+                database, collection);
+            schemaEx.dropCollection(database, collection);
+          }
+        }
+      } catch (SchemaOperationException ex) {
+        throw new RetrierAbortException(ex);
+      }
+      return null;
+    });
+  }
+}
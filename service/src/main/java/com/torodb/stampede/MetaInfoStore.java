@@ -0,0 +1,86 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.torodb.core.backend.BackendService;
+import com.torodb.core.backend.DmlTransaction;
+import com.torodb.core.backend.MetaInfoKey;
+import com.torodb.core.backend.WriteDmlTransaction;
+import com.torodb.core.exceptions.user.UserException;
+import com.torodb.core.retrier.Retrier;
+import com.torodb.core.retrier.RetrierAbortException;
+import com.torodb.core.retrier.RetrierGiveUpException;
+import com.torodb.core.transaction.RollbackException;
+import com.torodb.kvdocument.types.KvType;
+import com.torodb.kvdocument.values.KvValue;
+
+import java.util.Optional;
+
+/**
+ * Reads and writes the meta info values that ToroDB Stampede stores on the backend.
+ */
+class MetaInfoStore {
+
+  private final BackendService backendService;
+  private final Retrier retrier;
+
+  MetaInfoStore(BackendService backendService, Retrier retrier) {
+    this.backendService = backendService;
+    this.retrier = retrier;
+  }
+
+  /**
+   * Reads the value stored with the given key on its own read transaction.
+   *
+   * @see #read(DmlTransaction, MetaInfoKey, KvType)
+   */
+  Optional<KvValue<?>> read(MetaInfoKey key, KvType expectedType) {
+    try (DmlTransaction trans = backendService.openReadTransaction()) {
+      return read(trans, key, expectedType);
+    }
+  }
+
+  /**
+   * Reads the value stored with the given key on the given transaction.
+   *
+   * @return the stored value or an empty optional if there is no value stored with that key
+   * @throws IllegalStateException if the stored value is not of the expected type
+   */
+  Optional<KvValue<?>> read(DmlTransaction trans, MetaInfoKey key, KvType expectedType) {
+    Optional<KvValue<?>> valueOpt = trans.readMetaInfo(key);
+    if (valueOpt.isPresent() && !valueOpt.get().getType().equals(expectedType)) {
+      throw new IllegalStateException("Unexpected meta info value "
+          + "found. Expected a " + expectedType + " but " + valueOpt + " was "
+          + "found");
+    }
+    return valueOpt;
+  }
+
+  void write(MetaInfoKey key, KvValue<?> value) throws RollbackException,
+      RetrierGiveUpException {
+    retrier.retry(() -> {
+      try (WriteDmlTransaction trans = backendService.openWriteTransaction()) {
+        trans.writeMetaInfo(key, value);
+        trans.commit();
+      } catch (UserException ex) {
+        throw new RetrierAbortException(ex);
+      }
+      return null;
+    });
+  }
+}
@@ -0,0 +1,256 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.common.collect.ImmutableSortedMap;
+import com.google.common.collect.ImmutableSortedSet;
+
+import java.io.StringReader;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.stream.Collectors;
+
+import javax.json.Json;
+import javax.json.JsonArray;
+import javax.json.JsonArrayBuilder;
+import javax.json.JsonObject;
+import javax.json.JsonObjectBuilder;
+import javax.json.JsonReader;
+import javax.json.JsonString;
+
+/**
+ * The include and exclude lists the user replication filters are built from.
+ *
+ * <p>Each list maps database patterns to collection patterns and each collection pattern to the
+ * index filters it selects, written in a canonical form. As on the configuration, a database
+ * without collections stands for all its collections and a collection without index filters stands
+ * for all its indexes.
+ */
+public class ReplicationFilterLists {
+
+  private static final String INCLUDE = "include";
+  private static final String EXCLUDE = "exclude";
+
+  private final ImmutableSortedMap<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>>
+      include;
+  private final ImmutableSortedMap<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>>
+      exclude;
+
+  public ReplicationFilterLists(
+      Map<String, ? extends Map<String, ? extends Collection<String>>> include,
+      Map<String, ? extends Map<String, ? extends Collection<String>>> exclude) {
+    this.include = copyOf(include);
+    this.exclude = copyOf(exclude);
+  }
+
+  /**
+   * Returns the lists of filters that accept every database, collection and index.
+   */
+  public static ReplicationFilterLists allowAll() {
+    return new ReplicationFilterLists(ImmutableSortedMap.of(), ImmutableSortedMap.of());
+  }
+
+  /**
+   * Returns true iff every database, collection and index accepted by these filters was already
+   * accepted by the given ones.
+   *
+   * <p>Patterns are compared as written, so this method can return false for filters that only
+   * accept less. It also returns false when the index filters of a collection change, as the
+   * indexes that have already been created are not dropped.
+   */
+  public boolean isNarrowerThan(ReplicationFilterLists previous) {
+    return isIncludeNarrower(include, previous.include)
+        && isExcludeWider(exclude, previous.exclude);
+  }
+
+  private static boolean isIncludeNarrower(
+      Map<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> newInclude,
+      Map<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> oldInclude) {
+    if (oldInclude.isEmpty()) {
+      return !hasIndexFilters(newInclude);
+    }
+    if (newInclude.isEmpty()) {
+      return false;
+    }
+    for (Map.Entry<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> entry
+        : newInclude.entrySet()) {
+      Map<String, ImmutableSortedSet<String>> newCollections = entry.getValue();
+      Map<String, ImmutableSortedSet<String>> oldCollections = oldInclude.get(entry.getKey());
+      if (oldCollections == null) {
+        return false;
+      }
+      if (oldCollections.isEmpty()) {
+        if (newCollections.values().stream().anyMatch(indexes -> !indexes.isEmpty())) {
+          return false;
+        }
+        continue;
+      }
+      if (newCollections.isEmpty()) {
+        return false;
+      }
+      for (Map.Entry<String, ImmutableSortedSet<String>> collection : newCollections.entrySet()) {
+        if (!collection.getValue().equals(oldCollections.get(collection.getKey()))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean isExcludeWider(
+      Map<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> newExclude,
+      Map<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> oldExclude) {
+    for (Map.Entry<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> entry
+        : oldExclude.entrySet()) {
+      Map<String, ImmutableSortedSet<String>> oldCollections = entry.getValue();
+      Map<String, ImmutableSortedSet<String>> newCollections = newExclude.get(entry.getKey());
+      if (newCollections == null) {
+        return false;
+      }
+      if (newCollections.isEmpty()) {
+        continue;
+      }
+      if (oldCollections.isEmpty()) {
+        return false;
+      }
+      for (Map.Entry<String, ImmutableSortedSet<String>> collection : oldCollections.entrySet()) {
+        ImmutableSortedSet<String> newIndexes = newCollections.get(collection.getKey());
+        if (newIndexes == null
+            || !newIndexes.isEmpty() && !newIndexes.equals(collection.getValue())) {
+          return false;
+        }
+      }
+    }
+    //excluding some indexes of a collection does not drop the ones that have been created
+    for (Map.Entry<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> entry
+        : newExclude.entrySet()) {
+      Map<String, ImmutableSortedSet<String>> oldCollections = oldExclude.getOrDefault(
+          entry.getKey(), ImmutableSortedMap.of());
+      for (Map.Entry<String, ImmutableSortedSet<String>> collection
+          : entry.getValue().entrySet()) {
+        if (!collection.getValue().isEmpty()
+            && !collection.getValue().equals(oldCollections.get(collection.getKey()))) {
+          return false;
+        }
+      }
+    }
+    return true;
+  }
+
+  private static boolean hasIndexFilters(
+      Map<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> filterList) {
+    return filterList.values().stream()
+        .flatMap(collections -> collections.values().stream())
+        .anyMatch(indexes -> !indexes.isEmpty());
+  }
+
+  /**
+   * Returns these lists as a JSON document that {@link #fromJson(String)} can read.
+   */
+  public String toJson() {
+    return Json.createObjectBuilder()
+        .add(INCLUDE, toJson(include))
+        .add(EXCLUDE, toJson(exclude))
+        .build()
+        .toString();
+  }
+
+  private static JsonObjectBuilder toJson(
+      Map<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>> filterList) {
+    JsonObjectBuilder databases = Json.createObjectBuilder();
+    filterList.forEach((database, collections) -> {
+      JsonObjectBuilder collectionsBuilder = Json.createObjectBuilder();
+      collections.forEach((collection, indexes) -> {
+        JsonArrayBuilder indexesBuilder = Json.createArrayBuilder();
+        indexes.forEach(indexesBuilder::add);
+        collectionsBuilder.add(collection, indexesBuilder);
+      });
+      databases.add(database, collectionsBuilder);
+    });
+    return databases;
+  }
+
+  /**
+   * Reads the lists written by {@link #toJson()}.
+   *
+   * @throws javax.json.JsonException if the given string is not a valid JSON document
+   */
+  public static ReplicationFilterLists fromJson(String json) {
+    try (JsonReader reader = Json.createReader(new StringReader(json))) {
+      JsonObject object = reader.readObject();
+      return new ReplicationFilterLists(
+          fromJson(object.getJsonObject(INCLUDE)),
+          fromJson(object.getJsonObject(EXCLUDE))
+      );
+    }
+  }
+
+  private static Map<String, Map<String, Collection<String>>> fromJson(JsonObject databases) {
+    Map<String, Map<String, Collection<String>>> result = new HashMap<>();
+    databases.forEach((database, collections) -> {
+      Map<String, Collection<String>> collectionsResult = new HashMap<>();
+      ((JsonObject) collections).forEach((collection, indexes) ->
+          collectionsResult.put(collection, ((JsonArray) indexes)
+              .getValuesAs(JsonString.class)
+              .stream()
+              .map(JsonString::getString)
+              .collect(Collectors.toList()))
+      );
+      result.put(database, collectionsResult);
+    });
+    return result;
+  }
+
+  private static ImmutableSortedMap<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>>
+      copyOf(Map<String, ? extends Map<String, ? extends Collection<String>>> filterList) {
+    ImmutableSortedMap.Builder<String, ImmutableSortedMap<String, ImmutableSortedSet<String>>>
+        result = ImmutableSortedMap.naturalOrder();
+    filterList.forEach((database, collections) -> {
+      ImmutableSortedMap.Builder<String, ImmutableSortedSet<String>> collectionsResult =
+          ImmutableSortedMap.naturalOrder();
+      collections.forEach((collection, indexes) ->
+          collectionsResult.put(collection, ImmutableSortedSet.copyOf(indexes)));
+      result.put(database, collectionsResult.build());
+    });
+    return result.build();
+  }
+
+  @Override
+  public int hashCode() {
+    return Objects.hash(include, exclude);
+  }
+
+  @Override
+  public boolean equals(Object obj) {
+    if (this == obj) {
+      return true;
+    }
+    if (obj == null || getClass() != obj.getClass()) {
+      return false;
+    }
+    ReplicationFilterLists other = (ReplicationFilterLists) obj;
+    return include.equals(other.include) && exclude.equals(other.exclude);
+  }
+
+  @Override
+  public String toString() {
+    return toJson();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.torodb.core.backend.MetaInfoKey;
+import com.torodb.core.retrier.RetrierGiveUpException;
+import com.torodb.kvdocument.types.StringType;
+import com.torodb.kvdocument.values.KvString;
+import com.torodb.kvdocument.values.heap.StringKvString;
+import org.apache.logging.log4j.Logger;
+
+import java.util.Optional;
+
+/**
+ * Keeps track of the replication filters used to replicate the data stored on the backend.
+ *
+ * <p>The filters are stored when the stored data is known to match them, which is when the user
+ * data has been dropped to start a new initial recovery and when the data excluded by narrower
+ * filters has been dropped. If the filters change in any other way, the data that is already
+ * replicated may not match them, so a warning is logged on each start until a new initial recovery
+ * is done.
+ */
+class ReplicationFiltersChecker {
+
+  private static final MetaInfoKey REPL_FILTERS_KEY = () -> "repl.filters";
+
+  private final MetaInfoStore metaInfoStore;
+  private final MetaInfoKey replFiltersKey;
+  private final Logger logger;
+
+  ReplicationFiltersChecker(MetaInfoStore metaInfoStore, Logger logger) {
+    this(metaInfoStore, REPL_FILTERS_KEY, logger);
+  }
+
+  ReplicationFiltersChecker(MetaInfoStore metaInfoStore, MetaInfoKey replFiltersKey,
+      Logger logger) {
+    this.metaInfoStore = metaInfoStore;
+    this.replFiltersKey = replFiltersKey;
+    this.logger = logger;
+  }
+
+  /**
+   * Compares the given replication filters with the stored ones.
+   *
+   * @param replFilters     the current replication filters
+   * @param userDataDropped true iff the user data has been dropped to start a new initial recovery
+   * @return how the current filters differ from the stored ones
+   */
+  FiltersChange check(ReplicationFilterLists replFilters, boolean userDataDropped)
+      throws RetrierGiveUpException {
+    if (userDataDropped) {
+      store(replFilters);
+      return FiltersChange.NONE;
+    }
+
+    Optional<ReplicationFilterLists> storedReplFilters = readReplFilters();
+    if (!storedReplFilters.isPresent()) {
+      //the data may have been replicated by a version that did not store the filters, so
+      //nothing can be assumed about the filters it was replicated with
+      logger.info("The replication filters used to replicate the stored data are unknown. The "
+          + "current filters {} will be stored on the next initial recovery.", replFilters);
+      return FiltersChange.NONE;
+    }
+    if (storedReplFilters.get().equals(replFilters)) {
+      return FiltersChange.NONE;
+    }
+    if (replFilters.isNarrowerThan(storedReplFilters.get())) {
+      logger.info("Replication filters have been narrowed since they were stored. The previous "
+          + "filters were {} and the current ones are {}. Newly excluded databases and "
+          + "collections will be dropped.", storedReplFilters.get(), replFilters);
+      return FiltersChange.NARROWED;
+    }
+    logger.warn("Replication filters have changed since the initial recovery. The previous "
+        + "filters were {} and the current ones are {}. Newly excluded databases and "
+        + "collections will be dropped, but data from newly included ones has not been "
+        + "replicated and index filter changes are not applied to existing indexes. Drop the "
+        + "ToroDB Stampede database and restart the replication to fix it.",
+        storedReplFilters.get(), replFilters);
+    return FiltersChange.OTHER;
+  }
+
+  /**
+   * Stores the given filters as the ones the stored data matches.
+   */
+  void store(ReplicationFilterLists replFilters) throws RetrierGiveUpException {
+    metaInfoStore.write(replFiltersKey, new StringKvString(replFilters.toJson()));
+  }
+
+  private Optional<ReplicationFilterLists> readReplFilters() {
+    return metaInfoStore.read(replFiltersKey, StringType.INSTANCE)
+        .map(value -> ReplicationFilterLists.fromJson(((KvString) value).getValue()));
+  }
+
+  enum FiltersChange {
+    /**
+     * The current filters are the stored ones or they cannot be compared.
+     */
+    NONE,
+    /**
+     * The current filters only accept things that the stored ones accepted.
+     */
+    NARROWED,
+    /**
+     * The current filters may accept things that the stored ones rejected or they select other
+     * indexes.
+     */
+    OTHER
+  }
+}
@@ -36,6 +36,7 @@ public class StampedeConfig {
   private final Injector essentialInjector;
   private final Function<BundleConfig, BackendBundle> backendBundleGenerator;
   private final ReplicationFilters userReplFilters;
+  private final ReplicationFilterLists userReplFilterLists;
   private final boolean unsharded;
   private final List<ShardConfigBuilder> shardConfigBuilders;
   private final LoggerFactory lifecycleLoggerFactory;
@@ -45,12 +46,14 @@ public class StampedeConfig {
       Injector essentialInjector,
       Function<BundleConfig, BackendBundle> backendBundleGenerator,
       ReplicationFilters userReplFilters,
+      ReplicationFilterLists userReplFilterLists,
       List<ShardConfigBuilder> shardConfigBuilders,
       LoggerFactory lf,
       OffHeapBufferConfig offHeapBufferConfig) {
     this.essentialInjector = essentialInjector;
     this.backendBundleGenerator = backendBundleGenerator;
     this.userReplFilters = userReplFilters;
+    this.userReplFilterLists = userReplFilterLists;
     this.shardConfigBuilders = shardConfigBuilders;
     this.lifecycleLoggerFactory = lf;
     this.unsharded = false;
@@ -61,12 +64,14 @@ public class StampedeConfig {
       Injector essentialInjector,
       Function<BundleConfig, BackendBundle> backendBundleGenerator,
       ReplicationFilters userReplFilters,
+      ReplicationFilterLists userReplFilterLists,
       ShardConfigBuilder shardConfigBuilder,
       LoggerFactory lf,
       OffHeapBufferConfig offHeapBufferConfig) {
     this.essentialInjector = essentialInjector;
     this.backendBundleGenerator = backendBundleGenerator;
     this.userReplFilters = userReplFilters;
+    this.userReplFilterLists = userReplFilterLists;
     this.shardConfigBuilders = Collections.singletonList(shardConfigBuilder);
     this.lifecycleLoggerFactory = lf;
     this.unsharded = true;
@@ -77,6 +82,7 @@ public class StampedeConfig {
       Injector essentialInjector,
       Function<BundleConfig, BackendBundle> backendBundleGenerator,
       ReplicationFilters userReplFilters,
+      ReplicationFilterLists userReplFilterLists,
       List<ShardConfigBuilder> shardConfigBuilders,
       LoggerFactory lf,
       OffHeapBufferConfig offHeapBufferConfig) {
@@ -84,6 +90,7 @@ public class StampedeConfig {
         essentialInjector,
         backendBundleGenerator,
         userReplFilters,
+        userReplFilterLists,
         shardConfigBuilders,
         lf,
         offHeapBufferConfig);
@@ -93,6 +100,7 @@ public class StampedeConfig {
       Injector essentialInjector,
       Function<BundleConfig, BackendBundle> backendBundleGenerator,
       ReplicationFilters userReplFilters,
+      ReplicationFilterLists userReplFilterLists,
       ShardConfigBuilder shardConfigBuilder,
       LoggerFactory lf,
       OffHeapBufferConfig offHeapBufferConfig) {
@@ -100,6 +108,7 @@ public class StampedeConfig {
         essentialInjector,
         backendBundleGenerator,
         userReplFilters,
+        userReplFilterLists,
         shardConfigBuilder,
         lf,
         offHeapBufferConfig);
@@ -132,6 +141,16 @@ public class StampedeConfig {
     return userReplFilters;
   }
 
+  /**
+   * Returns the include and exclude lists the {@link #getUserReplicationFilters() user
+   * replication filters} have been built from.
+   *
+   * <p>They are stored on the backend to detect how the filters change between executions.
+   */
+  public ReplicationFilterLists getUserReplicationFilterLists() {
+    return userReplFilterLists;
+  }
+
   public List<ShardConfigBuilder> getShardConfigBuilders() {
     return Collections.unmodifiableList(shardConfigBuilders);
   }
@@ -17,12 +17,14 @@
  */
 package com.torodb.stampede;
 
+import com.google.common.base.Stopwatch;
 import com.google.common.util.concurrent.AbstractIdleService;
 import com.google.inject.Injector;
 import com.torodb.core.Shutdowner;
 import com.torodb.core.backend.BackendBundle;
 import com.torodb.core.backend.BackendService;
 import com.torodb.core.backend.DdlOperationExecutor;
+import com.torodb.core.backend.DmlTransaction;
 import com.torodb.core.bundle.Bundle;
 import com.torodb.core.bundle.BundleConfig;
 import com.torodb.core.bundle.BundleConfigImpl;
@@ -36,17 +38,21 @@ import com.torodb.mongodb.repl.ConsistencyHandler;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingBundle;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingConfig;
 import com.torodb.mongodb.repl.sharding.MongoDbShardingConfigBuilder;
+import com.torodb.stampede.ReplicationFiltersChecker.FiltersChange;
 import com.torodb.torod.TorodBundle;
 import com.torodb.torod.impl.sql.SqlTorodBundle;
 import com.torodb.torod.impl.sql.SqlTorodConfig;
 import org.apache.logging.log4j.Logger;
 
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
-import java.util.Optional;
 import java.util.concurrent.Executor;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.function.Function;
+import java.util.stream.Collectors;
 
 /**
  * This service is used to start and stop ToroDB Stampede.
@@ -95,22 +101,43 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     shutdowner.startAsync();
     shutdowner.awaitRunning();
     
+    Stopwatch stopwatch = Stopwatch.createStarted();
     BackendBundle backendBundle = stampedeConfig.getBackendBundleGenerator()
         .apply(generalBundleConfig);
     startBundle(backendBundle);
+    logPhase("Backend bundle start", stopwatch);
 
-    Map<String, ConsistencyHandler> consistencyHandlers = createConsistencyHandlers(
+    Map<String, AbstractConsistencyHandler> consistencyHandlers = createConsistencyHandlers(
         backendBundle,
         stampedeConfig.getThreadFactory()
     );
+    boolean consistent = preloadConsistencyStates(backendBundle, consistencyHandlers);
+
+    startConsistencyHandlers(consistencyHandlers);
+    logPhase("Consistency handlers start", stopwatch);
 
     resolveInconsistencies(backendBundle, consistencyHandlers);
+    ReplicationFiltersChecker replFiltersChecker = createReplicationFiltersChecker(backendBundle);
+    FiltersChange replFiltersChange = replFiltersChecker.check(
+        stampedeConfig.getUserReplicationFilterLists(), !consistent);
+    logPhase("Inconsistency resolution", stopwatch);
 
     TorodBundle torodBundle = createTorodBundle(backendBundle);
     startBundle(torodBundle);
+    logPhase("Torod bundle start", stopwatch);
+
+    if (replFiltersChange != FiltersChange.NONE) {
+      dropExcludedNamespaces(torodBundle);
+      if (replFiltersChange == FiltersChange.NARROWED) {
+        replFiltersChecker.store(stampedeConfig.getUserReplicationFilterLists());
+        logger.info("The narrowed replication filters have been stored");
+      }
+      logPhase("Excluded namespaces drop", stopwatch);
+    }
 
     MongoDbShardingBundle shardingBundle = createShardingBundle(torodBundle, consistencyHandlers);
     startBundle(shardingBundle);
+    logPhase("Sharding bundle start", stopwatch);
 
     logger.info("ToroDB Stampede is now running");
   }
@@ -125,12 +152,12 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     logger.info("ToroDB Stampede has been shutted down");
   }
 
-  private Map<String, ConsistencyHandler> createConsistencyHandlers(BackendBundle backendBundle,
-      ThreadFactory threadFactory) {
+  private Map<String, AbstractConsistencyHandler> createConsistencyHandlers(
+      BackendBundle backendBundle, ThreadFactory threadFactory) {
     Retrier retrier = essentialInjector.getInstance(Retrier.class);
     BackendService backendService = backendBundle.getExternalInterface().getBackendService();
 
-    Function<String, ConsistencyHandler> chSupplier;
+    Function<String, AbstractConsistencyHandler> chSupplier;
     if (stampedeConfig.getShardConfigBuilders().size() == 1) {
       chSupplier = (shardId) -> new DefaultConsistencyHandler(
           backendService, 
@@ -143,20 +170,37 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
       );
     }
 
-    Map<String, ConsistencyHandler> result = new HashMap<>();
-
+    Map<String, AbstractConsistencyHandler> result = new HashMap<>();
     stampedeConfig.getShardConfigBuilders().stream()
         .map(StampedeConfig.ShardConfigBuilder::getShardId)
-        .forEachOrdered((shardId) -> {
-          ConsistencyHandler consistencyHandler = chSupplier.apply(shardId);
+        .forEachOrdered((shardId) -> result.put(shardId, chSupplier.apply(shardId)));
 
-          consistencyHandler.startAsync();
-          consistencyHandler.awaitRunning();
+    return result;
+  }
 
-          result.put(shardId, consistencyHandler);
-        });
+  /**
+   * Reads the consistency state of all handlers on a single transaction instead of one per
+   * handler.
+   *
+   * @return true iff all handlers are consistent
+   */
+  private boolean preloadConsistencyStates(BackendBundle backendBundle,
+      Map<String, AbstractConsistencyHandler> consistencyHandlers) {
+    BackendService backendService = backendBundle.getExternalInterface().getBackendService();
 
-    return result;
+    boolean consistent = true;
+    try (DmlTransaction trans = backendService.openReadTransaction()) {
+      for (AbstractConsistencyHandler consistencyHandler : consistencyHandlers.values()) {
+        consistent &= consistencyHandler.preloadConsistent(trans);
+      }
+    }
+    return consistent;
+  }
+
+  private void startConsistencyHandlers(
+      Map<String, AbstractConsistencyHandler> consistencyHandlers) {
+    consistencyHandlers.values().forEach(ConsistencyHandler::startAsync);
+    consistencyHandlers.values().forEach(ConsistencyHandler::awaitRunning);
   }
 
   private TorodBundle createTorodBundle(BackendBundle backendBundle) {
@@ -168,7 +212,7 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
   }
 
   private MongoDbShardingBundle createShardingBundle(TorodBundle torodBundle,
-      Map<String, ConsistencyHandler> consistencyHandler) {
+      Map<String, ? extends ConsistencyHandler> consistencyHandler) {
 
     MongoDbShardingConfigBuilder configBuilder;
     if (stampedeConfig.isUnsharded()) {
@@ -192,7 +236,7 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
   private void addShard(
       MongoDbShardingConfigBuilder shardingConfBuilder,
       StampedeConfig.ShardConfigBuilder shardConfBuilder,
-      Map<String, ConsistencyHandler> consistencyHandlers) {
+      Map<String, ? extends ConsistencyHandler> consistencyHandlers) {
 
     ConsistencyHandler consistencyHandler = consistencyHandlers.get(shardConfBuilder.getShardId());
 
@@ -209,6 +253,32 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
     }
   }
 
+  private ReplicationFiltersChecker createReplicationFiltersChecker(
+      BackendBundle backendBundle) {
+    MetaInfoStore metaInfoStore = new MetaInfoStore(
+        backendBundle.getExternalInterface().getBackendService(),
+        essentialInjector.getInstance(Retrier.class)
+    );
+    return new ReplicationFiltersChecker(metaInfoStore, logger);
+  }
+
+  private void dropExcludedNamespaces(TorodBundle torodBundle) throws TimeoutException,
+      RetrierGiveUpException {
+    ExcludedNamespacesDropper dropper = new ExcludedNamespacesDropper(
+        essentialInjector.getInstance(Retrier.class),
+        logger
+    );
+    dropper.drop(
+        torodBundle.getExternalInterface().getTorodServer(),
+        stampedeConfig.getUserReplicationFilters()
+    );
+  }
+
+  private void logPhase(String phaseName, Stopwatch stopwatch) {
+    logger.info("{} took {} ms", phaseName, stopwatch.elapsed(TimeUnit.MILLISECONDS));
+    stopwatch.reset().start();
+  }
+
   private void startBundle(Bundle<?> bundle) {
     bundle.startAsync();
     bundle.awaitRunning();
@@ -217,25 +287,31 @@ public class StampedeService extends AbstractIdleService implements Supervisor {
   }
 
   private void resolveInconsistencies(BackendBundle backendBundle, 
-      Map<String, ConsistencyHandler> consistencyHandlers) throws UserException,
+      Map<String, ? extends ConsistencyHandler> consistencyHandlers) throws UserException,
       RetrierGiveUpException {
 
-    Optional<String> inconsistentShard = consistencyHandlers.entrySet().stream()
+    List<String> inconsistentShards = consistencyHandlers.entrySet().stream()
         .filter(e -> !e.getValue().isConsistent())
         .map(Map.Entry::getKey)
-        .findAny();
-
-    //TODO: Some improvements can be done so only the inconsistent shards are dropped
-    if (inconsistentShard.isPresent()) {
-      logger.warn("Found that replication shard {} is not consistent.",
-          inconsistentShard.orElse("unknown")
-      );
+        .sorted()
+        .collect(Collectors.toList());
+
+    //TODO: Only the inconsistent shards should be dropped, but documents replicated from
+    //different shards share the same tables and the backend does not track which shard each
+    //row comes from, so there is no way to drop the data of a single shard yet
+    if (!inconsistentShards.isEmpty()) {
+      logger.warn("Found that replication shards {} are not consistent.", inconsistentShards);
       logger.warn("Dropping user data.");
       dropUserData(backendBundle);
 
-      for (Map.Entry<String, ConsistencyHandler> entry : consistencyHandlers.entrySet()) {
+      for (Map.Entry<String, ? extends ConsistencyHandler> entry
+          : consistencyHandlers.entrySet()) {
         String shardId = entry.getKey();
         ConsistencyHandler consistencyHandler = entry.getValue();
+        if (inconsistentShards.contains(shardId)) {
+          //its stored state is already inconsistent
+          continue;
+        }
         Logger logger = new ComponentLoggerFactory("REPL-" + shardId)
             .apply(this.getClass());
         consistencyHandler.setConsistent(logger, false);
@@ -0,0 +1,128 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.inject.Injector;
+import com.torodb.core.backend.BackendBundle;
+import com.torodb.core.bundle.BundleConfig;
+import com.torodb.core.retrier.Retrier;
+import com.torodb.mongodb.repl.filters.ReplicationFilters;
+import com.torodb.packaging.config.model.protocol.mongo.AbstractReplication;
+import com.torodb.packaging.config.model.protocol.mongo.AbstractShardReplication;
+import com.torodb.packaging.config.model.protocol.mongo.FilterList;
+import com.torodb.packaging.util.ReplicationFiltersFactory;
+import com.torodb.torod.DocTransaction;
+import com.torodb.torod.SchemaOperationExecutor;
+import com.torodb.torod.TorodBundle;
+import com.torodb.torod.TorodServer;
+import com.torodb.torod.impl.sql.SqlTorodBundle;
+import com.torodb.torod.impl.sql.SqlTorodConfig;
+import org.apache.logging.log4j.LogManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.UUID;
+
+public class ExcludedNamespacesDropperTest {
+
+  private BackendBundle backendBundle;
+  private TorodBundle torodBundle;
+  private Retrier retrier;
+  private String excludedDatabase;
+  private String includedDatabase;
+
+  @Before
+  public void setUp() {
+    Injector injector = TestBackends.createEssentialInjector();
+    BundleConfig bundleConfig = TestBackends.createBundleConfig(injector);
+    backendBundle = TestBackends.startBackendBundle(bundleConfig);
+    torodBundle = new SqlTorodBundle(new SqlTorodConfig(backendBundle, bundleConfig));
+    torodBundle.startAsync();
+    torodBundle.awaitRunning();
+    retrier = injector.getInstance(Retrier.class);
+
+    String suffix = UUID.randomUUID().toString().replace("-", "");
+    excludedDatabase = "excluded" + suffix;
+    includedDatabase = "included" + suffix;
+  }
+
+  @After
+  public void tearDown() {
+    torodBundle.stopAsync();
+    torodBundle.awaitTerminated();
+    backendBundle.stopAsync();
+    backendBundle.awaitTerminated();
+  }
+
+  @Test
+  public void testDropExcludedNamespaces() throws Exception {
+    TorodServer torodServer = torodBundle.getExternalInterface().getTorodServer();
+    try (SchemaOperationExecutor schemaEx = torodServer.openSchemaOperationExecutor()) {
+      schemaEx.createDatabase(excludedDatabase);
+      schemaEx.createCollection(excludedDatabase, "films");
+      schemaEx.createDatabase(includedDatabase);
+      schemaEx.createCollection(includedDatabase, "films");
+      schemaEx.createCollection(includedDatabase, "series");
+    }
+
+    FilterList exclude = new FilterList();
+    exclude.put(excludedDatabase, new HashMap<>());
+    exclude.put(includedDatabase, Collections.singletonMap("series", new ArrayList<>()));
+
+    new ExcludedNamespacesDropper(retrier,
+        LogManager.getLogger(ExcludedNamespacesDropperTest.class))
+        .drop(torodServer, createReplicationFilters(exclude));
+
+    try (DocTransaction trans = torodServer.openReadTransaction()) {
+      Assert.assertFalse(trans.existsDatabase(excludedDatabase));
+      Assert.assertTrue(trans.existsCollection(includedDatabase, "films"));
+      Assert.assertFalse(trans.existsCollection(includedDatabase, "series"));
+    }
+  }
+
+  @Test
+  public void testNothingExcluded() throws Exception {
+    TorodServer torodServer = torodBundle.getExternalInterface().getTorodServer();
+    try (SchemaOperationExecutor schemaEx = torodServer.openSchemaOperationExecutor()) {
+      schemaEx.createDatabase(includedDatabase);
+      schemaEx.createCollection(includedDatabase, "films");
+    }
+
+    new ExcludedNamespacesDropper(retrier,
+        LogManager.getLogger(ExcludedNamespacesDropperTest.class))
+        .drop(torodServer, createReplicationFilters(new FilterList()));
+
+    try (DocTransaction trans = torodServer.openReadTransaction()) {
+      Assert.assertTrue(trans.existsCollection(includedDatabase, "films"));
+    }
+  }
+
+  private ReplicationFilters createReplicationFilters(FilterList exclude) {
+    AbstractReplication<AbstractShardReplication> replication =
+        new AbstractReplication<AbstractShardReplication>() {
+        };
+    replication.setInclude(new FilterList());
+    replication.setExclude(exclude);
+    return ReplicationFiltersFactory.getReplicationFilters(replication);
+  }
+}
@@ -0,0 +1,97 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.common.collect.ImmutableList;
+import com.google.common.collect.ImmutableMap;
+import org.junit.Assert;
+import org.junit.Test;
+
+public class ReplicationFilterListsTest {
+
+  private static final String NAME_INDEX = "{\"name\":\"title\",\"keys\":{\"title\":1,\"year\":-1}}";
+
+  @Test
+  public void testJsonRoundTrip() {
+    ReplicationFilterLists filterLists = new ReplicationFilterLists(
+        ImmutableMap.of("films", ImmutableMap.of("classics", ImmutableList.of(NAME_INDEX))),
+        ImmutableMap.of("admin", ImmutableMap.of())
+    );
+
+    Assert.assertEquals(filterLists, ReplicationFilterLists.fromJson(filterLists.toJson()));
+  }
+
+  @Test
+  public void testIndexFiltersAreStoredAsWritten() {
+    ReplicationFilterLists filterLists = new ReplicationFilterLists(
+        ImmutableMap.of("films", ImmutableMap.of("classics", ImmutableList.of(NAME_INDEX))),
+        ImmutableMap.of()
+    );
+
+    Assert.assertTrue(filterLists.toJson().contains(
+        "{\\\"title\\\":1,\\\"year\\\":-1}"));
+  }
+
+  @Test
+  public void testIncludingLessIsNarrower() {
+    ReplicationFilterLists all = ReplicationFilterLists.allowAll();
+    ReplicationFilterLists films = include(ImmutableMap.of("films", ImmutableMap.of()));
+    ReplicationFilterLists classics = include(ImmutableMap.of(
+        "films", ImmutableMap.of("classics", ImmutableList.of())));
+
+    Assert.assertTrue(films.isNarrowerThan(all));
+    Assert.assertTrue(classics.isNarrowerThan(films));
+    Assert.assertFalse(all.isNarrowerThan(films));
+    Assert.assertFalse(films.isNarrowerThan(classics));
+  }
+
+  @Test
+  public void testExcludingMoreIsNarrower() {
+    ReplicationFilterLists all = ReplicationFilterLists.allowAll();
+    ReplicationFilterLists noClassics = exclude(ImmutableMap.of(
+        "films", ImmutableMap.of("classics", ImmutableList.of())));
+    ReplicationFilterLists noFilms = exclude(ImmutableMap.of("films", ImmutableMap.of()));
+
+    Assert.assertTrue(noClassics.isNarrowerThan(all));
+    Assert.assertTrue(noFilms.isNarrowerThan(noClassics));
+    Assert.assertFalse(all.isNarrowerThan(noClassics));
+    Assert.assertFalse(noClassics.isNarrowerThan(noFilms));
+  }
+
+  @Test
+  public void testIndexFilterChangesAreNotNarrower() {
+    ReplicationFilterLists all = ReplicationFilterLists.allowAll();
+    ReplicationFilterLists titleIndex = include(ImmutableMap.of(
+        "films", ImmutableMap.of("classics", ImmutableList.of(NAME_INDEX))));
+    ReplicationFilterLists noTitleIndex = exclude(ImmutableMap.of(
+        "films", ImmutableMap.of("classics", ImmutableList.of(NAME_INDEX))));
+
+    Assert.assertFalse(titleIndex.isNarrowerThan(all));
+    Assert.assertFalse(noTitleIndex.isNarrowerThan(all));
+  }
+
+  private static ReplicationFilterLists include(
+      ImmutableMap<String, ImmutableMap<String, ImmutableList<String>>> include) {
+    return new ReplicationFilterLists(include, ImmutableMap.of());
+  }
+
+  private static ReplicationFilterLists exclude(
+      ImmutableMap<String, ImmutableMap<String, ImmutableList<String>>> exclude) {
+    return new ReplicationFilterLists(ImmutableMap.of(), exclude);
+  }
+}
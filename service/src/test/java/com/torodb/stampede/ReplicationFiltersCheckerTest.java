@@ -0,0 +1,129 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.common.collect.ImmutableMap;
+import com.google.inject.Injector;
+import com.torodb.core.backend.BackendBundle;
+import com.torodb.core.backend.MetaInfoKey;
+import com.torodb.kvdocument.types.StringType;
+import com.torodb.kvdocument.values.KvString;
+import com.torodb.stampede.ReplicationFiltersChecker.FiltersChange;
+import org.apache.logging.log4j.LogManager;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Optional;
+import java.util.UUID;
+
+public class ReplicationFiltersCheckerTest {
+
+  private static final ReplicationFilterLists ALLOW_ALL = ReplicationFilterLists.allowAll();
+  private static final ReplicationFilterLists INCLUDE_FILMS = new ReplicationFilterLists(
+      ImmutableMap.of("films", ImmutableMap.of()),
+      ImmutableMap.of()
+  );
+
+  private BackendBundle backendBundle;
+  private MetaInfoStore metaInfoStore;
+  private MetaInfoKey replFiltersKey;
+
+  @Before
+  public void setUp() {
+    Injector injector = TestBackends.createEssentialInjector();
+    backendBundle = TestBackends.startBackendBundle(TestBackends.createBundleConfig(injector));
+    metaInfoStore = TestBackends.createMetaInfoStore(injector, backendBundle);
+    String keyName = "test.repl.filters." + UUID.randomUUID();
+    replFiltersKey = () -> keyName;
+  }
+
+  @After
+  public void tearDown() {
+    backendBundle.stopAsync();
+    backendBundle.awaitTerminated();
+  }
+
+  @Test
+  public void testFirstStartStoresFilters() throws Exception {
+    Assert.assertEquals(FiltersChange.NONE, createChecker().check(ALLOW_ALL, true));
+
+    Assert.assertEquals(Optional.of(ALLOW_ALL), readStoredFilters());
+  }
+
+  @Test
+  public void testNoStoredFiltersWithoutDrop() throws Exception {
+    Assert.assertEquals(FiltersChange.NONE, createChecker().check(ALLOW_ALL, false));
+
+    Assert.assertEquals(Optional.empty(), readStoredFilters());
+  }
+
+  @Test
+  public void testDropRewritesFilters() throws Exception {
+    createChecker().check(INCLUDE_FILMS, true);
+
+    Assert.assertEquals(FiltersChange.NONE, createChecker().check(ALLOW_ALL, true));
+
+    Assert.assertEquals(Optional.of(ALLOW_ALL), readStoredFilters());
+  }
+
+  @Test
+  public void testSameFilters() throws Exception {
+    createChecker().check(INCLUDE_FILMS, true);
+
+    Assert.assertEquals(FiltersChange.NONE, createChecker().check(INCLUDE_FILMS, false));
+  }
+
+  @Test
+  public void testNarrowedFiltersKeepStoredOnes() throws Exception {
+    createChecker().check(ALLOW_ALL, true);
+
+    Assert.assertEquals(FiltersChange.NARROWED, createChecker().check(INCLUDE_FILMS, false));
+
+    Assert.assertEquals(Optional.of(ALLOW_ALL), readStoredFilters());
+  }
+
+  @Test
+  public void testWidenedFiltersKeepStoredOnes() throws Exception {
+    createChecker().check(INCLUDE_FILMS, true);
+
+    Assert.assertEquals(FiltersChange.OTHER, createChecker().check(ALLOW_ALL, false));
+
+    Assert.assertEquals(Optional.of(INCLUDE_FILMS), readStoredFilters());
+  }
+
+  @Test
+  public void testStoreReplacesFilters() throws Exception {
+    createChecker().check(ALLOW_ALL, true);
+
+    createChecker().store(INCLUDE_FILMS);
+
+    Assert.assertEquals(FiltersChange.NONE, createChecker().check(INCLUDE_FILMS, false));
+  }
+
+  private ReplicationFiltersChecker createChecker() {
+    return new ReplicationFiltersChecker(metaInfoStore, replFiltersKey,
+        LogManager.getLogger(ReplicationFiltersCheckerTest.class));
+  }
+
+  private Optional<ReplicationFilterLists> readStoredFilters() {
+    return metaInfoStore.read(replFiltersKey, StringType.INSTANCE)
+        .map(value -> ReplicationFilterLists.fromJson(((KvString) value).getValue()));
+  }
+}
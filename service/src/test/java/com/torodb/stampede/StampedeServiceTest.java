@@ -20,13 +20,6 @@ package com.torodb.stampede;
 import com.google.common.collect.ImmutableList;
 import com.google.common.net.HostAndPort;
 import com.google.common.util.concurrent.Service;
-import com.google.inject.Guice;
-import com.google.inject.Injector;
-import com.torodb.backend.derby.DerbyDbBackendBundle;
-import com.torodb.backend.derby.driver.DerbyDbBackendConfigBuilder;
-import com.torodb.core.backend.BackendBundle;
-import com.torodb.core.bundle.BundleConfig;
-import com.torodb.core.guice.EssentialModule;
 import com.torodb.core.logging.DefaultLoggerFactory;
 import com.torodb.mongodb.repl.ConsistencyHandler;
 import com.torodb.mongodb.repl.filters.ReplicationFilters;
@@ -38,7 +31,6 @@ import org.junit.Before;
 import org.junit.Ignore;
 import org.junit.Test;
 
-import java.time.Clock;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -50,9 +42,10 @@ public class StampedeServiceTest {
   @Before
   public void setUp() {
     stampedeConfig = StampedeConfig.createShardingConfig(
-        createEssentialInjector(),
-        this::createBackendBundle,
+        TestBackends.createEssentialInjector(),
+        TestBackends::createBackendBundle,
         ReplicationFilters.allowAll(),
+        ReplicationFilterLists.allowAll(),
         createShards(1),
         DefaultLoggerFactory.getInstance(),
         createOffHeapBufferConfig()
@@ -76,20 +69,6 @@ public class StampedeServiceTest {
     stampedeService.awaitTerminated();
   }
 
-  private Injector createEssentialInjector() {
-    return Guice.createInjector(new EssentialModule(
-        DefaultLoggerFactory.getInstance(),
-        () -> true,
-        Clock.systemUTC())
-    );
-  }
-
-  private BackendBundle createBackendBundle(BundleConfig bundleConfig) {
-    return new DerbyDbBackendBundle(new DerbyDbBackendConfigBuilder(bundleConfig)
-        .build()
-    );
-  }
-
   private List<StampedeConfig.ShardConfigBuilder> createShards(int size) {
     List<StampedeConfig.ShardConfigBuilder> result = new ArrayList<>(size);
 
@@ -0,0 +1,75 @@
+/*
+ * ToroDB Stampede
+ * Copyright © 2016 8Kdata Technology (www.8kdata.com)
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU Affero General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU Affero General Public License for more details.
+ *
+ * You should have received a copy of the GNU Affero General Public License
+ * along with this program. If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.torodb.stampede;
+
+import com.google.inject.Guice;
+import com.google.inject.Injector;
+import com.torodb.backend.derby.DerbyDbBackendBundle;
+import com.torodb.backend.derby.driver.DerbyDbBackendConfigBuilder;
+import com.torodb.core.backend.BackendBundle;
+import com.torodb.core.bundle.BundleConfig;
+import com.torodb.core.bundle.BundleConfigImpl;
+import com.torodb.core.guice.EssentialModule;
+import com.torodb.core.logging.DefaultLoggerFactory;
+import com.torodb.core.retrier.Retrier;
+import com.torodb.core.supervision.SupervisorDecision;
+
+import java.time.Clock;
+
+/**
+ * Creates the essential injector and the Derby backend used by the tests of this module.
+ */
+class TestBackends {
+
+  private TestBackends() {
+  }
+
+  static Injector createEssentialInjector() {
+    return Guice.createInjector(new EssentialModule(
+        DefaultLoggerFactory.getInstance(),
+        () -> true,
+        Clock.systemUTC())
+    );
+  }
+
+  static BundleConfig createBundleConfig(Injector essentialInjector) {
+    return new BundleConfigImpl(essentialInjector,
+        (supervised, error) -> SupervisorDecision.IGNORE);
+  }
+
+  static BackendBundle createBackendBundle(BundleConfig bundleConfig) {
+    return new DerbyDbBackendBundle(new DerbyDbBackendConfigBuilder(bundleConfig)
+        .build()
+    );
+  }
+
+  static BackendBundle startBackendBundle(BundleConfig bundleConfig) {
+    BackendBundle backendBundle = createBackendBundle(bundleConfig);
+    backendBundle.startAsync();
+    backendBundle.awaitRunning();
+    return backendBundle;
+  }
+
+  static MetaInfoStore createMetaInfoStore(Injector essentialInjector,
+      BackendBundle backendBundle) {
+    return new MetaInfoStore(
+        backendBundle.getExternalInterface().getBackendService(),
+        essentialInjector.getInstance(Retrier.class)
+    );
+  }
+}